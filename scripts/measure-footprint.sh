@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+# Measures startup time, resident memory and heap allocated per transfer request.
+#
+# Usage: [APP_JAR=path] scripts/measure-footprint.sh [label] [extra JVM options...]
+#   before:   APP_JAR=/tmp/baseline/build/libs/project-0.0.1-SNAPSHOT.jar scripts/measure-footprint.sh before
+#   current:  scripts/measure-footprint.sh current
+#   lean:     scripts/measure-footprint.sh lean -Dspring.profiles.active=lean \
+#               -XX:SharedArchiveFile=build/cds/app.jsa
+#
+# 'before' is the tree before the lean changes (request scoped controller, Thymeleaf on the class
+# path), built as a Spring Boot jar from a separate checkout, e.g.
+#   git worktree add /tmp/baseline <commit before the lean profile> && (cd /tmp/baseline && gradle bootJar)
+# Without APP_JAR the current tree's build/lean/app.jar is used, which already has those changes:
+# comparing 'current' and 'lean' only shows the effect of the profile and CDS.
+#
+# Run from the project directory. Needs `gradle leanLibs` (and `gradle cdsArchive` for the CDS run),
+# curl, jstat and Linux /proc. The CDS run must start build/lean/app.jar with -jar exactly like the
+# dump, otherwise the JVM rejects the archive for a class path mismatch.
+# The young generation is sized so that no GC runs during the request phase; allocation is the
+# growth of used heap divided by the request count.
+set -euo pipefail
+
+LABEL=${1:-default}
+shift || true
+PORT=${PORT:-18080}
+REQUESTS=${REQUESTS:-2000}
+APP_JAR=${APP_JAR:-build/lean/app.jar}
+LOG=build/measure-${LABEL}.log
+BASE=http://localhost:${PORT}/v1/accounts
+
+START_NS=$(date +%s%N)
+# Velocity limits off, otherwise every transfer after the 20th from M-1 is rejected and the
+# allocation figure measures the rejection path.
+java -Xmn512m -Dserver.port="${PORT}" -Dtransfer.velocity.max-count=0 -Dtransfer.velocity.max-amount=0 "$@" \
+  -jar "${APP_JAR}" > "${LOG}" 2>&1 &
+PID=$!
+trap 'kill ${PID} 2>/dev/null || true' EXIT
+
+until curl -s -o /dev/null "${BASE}/none"; do
+  kill -0 ${PID} 2>/dev/null || { echo "application did not start, see ${LOG}"; exit 1; }
+  sleep 0.05
+done
+READY_MS=$(( ($(date +%s%N) - START_NS) / 1000000 ))
+
+post() {
+  curl -s -o /dev/null -H 'Content-Type: application/json' -d "$2" "${BASE}$1"
+}
+post "" '{"accountId":"M-1","balance":100000000}'
+post "" '{"accountId":"M-2","balance":0}'
+
+# Warm up the transfer path before measuring.
+for _ in $(seq 200); do
+  post /transfer '{"fromAccount":"M-1","toAccount":"M-2","transferAmount":1}'
+done
+RSS_IDLE_KB=$(awk '/VmRSS/ {print $2}' /proc/${PID}/status)
+
+heap_used() {
+  # S0U S1U EU OU, in KB
+  jstat -gc ${PID} | awk 'NR==2 {printf "%d %d\n", $3 + $4 + $6 + $8, $13}'
+}
+read -r USED_BEFORE YGC_BEFORE < <(heap_used)
+for _ in $(seq "${REQUESTS}"); do
+  post /transfer '{"fromAccount":"M-1","toAccount":"M-2","transferAmount":1}'
+done
+read -r USED_AFTER YGC_AFTER < <(heap_used)
+RSS_LOAD_KB=$(awk '/VmRSS/ {print $2}' /proc/${PID}/status)
+
+echo "profile:               ${LABEL}"
+echo "spring startup:        $(grep -o 'Started DevChallengeApplication in [0-9.]* seconds' "${LOG}" || echo n/a)"
+echo "first response:        ${READY_MS} ms"
+echo "rss after warm-up:     $(( RSS_IDLE_KB / 1024 )) MB"
+echo "rss after ${REQUESTS} reqs:   $(( RSS_LOAD_KB / 1024 )) MB"
+if [ "${YGC_BEFORE}" = "${YGC_AFTER}" ]; then
+  echo "allocated per request: $(( (USED_AFTER - USED_BEFORE) * 1024 / REQUESTS )) bytes"
+else
+  echo "allocated per request: n/a (GC ran during measurement, raise -Xmn)"
+fi
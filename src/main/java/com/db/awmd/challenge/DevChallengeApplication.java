@@ -2,10 +2,16 @@ package com.db.awmd.challenge;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication(scanBasePackages= "com.db.awmd.challenge")
 public class DevChallengeApplication {
   public static void main(String[] args) {
-    SpringApplication.run(DevChallengeApplication.class, args);
+    ConfigurableApplicationContext context = SpringApplication.run(DevChallengeApplication.class, args);
+
+    // CDS training run (see cdsArchive in build.gradle): the JVM writes the archive on exit.
+    if (Boolean.getBoolean("cds.training")) {
+      System.exit(SpringApplication.exit(context));
+    }
   }
 }
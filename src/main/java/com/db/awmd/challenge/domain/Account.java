@@ -1,16 +1,25 @@
 package com.db.awmd.challenge.domain;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.math.BigDecimal;
+import java.util.Currency;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.hibernate.validator.constraints.NotEmpty;
 
 @Data
 public class Account {
 
+  /**
+   * Currency assigned to accounts created without an explicit one.
+   */
+  public static final Currency DEFAULT_CURRENCY = Currency.getInstance("EUR");
+
   @NotNull
   @NotEmpty
   private final String accountId;
@@ -19,15 +28,31 @@ public class Account {
   @Min(value = 0, message = "Initial balance must be positive.")
   private BigDecimal balance;
 
+  @NotNull
+  private final Currency currency;
+
+  /**
+   * Recent debits for velocity rules, created on the first transfer. Guarded by the account's monitor.
+   */
+  @JsonIgnore
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private AccountActivity activity;
+
   public Account(String accountId) {
-    this.accountId = accountId;
-    this.balance = BigDecimal.ZERO;
+    this(accountId, BigDecimal.ZERO, DEFAULT_CURRENCY);
+  }
+
+  public Account(String accountId, BigDecimal balance) {
+    this(accountId, balance, DEFAULT_CURRENCY);
   }
 
   @JsonCreator
   public Account(@JsonProperty("accountId") String accountId,
-    @JsonProperty("balance") BigDecimal balance) {
+    @JsonProperty("balance") BigDecimal balance,
+    @JsonProperty("currency") Currency currency) {
     this.accountId = accountId;
     this.balance = balance;
+    this.currency = currency == null ? DEFAULT_CURRENCY : currency;
   }
 }
@@ -0,0 +1,77 @@
+package com.db.awmd.challenge.domain;
+
+/**
+ * Ring buffer of the most recent debits of an account: time (System.nanoTime) and amount in minor units.
+ * Two primitive arrays, nothing is allocated after construction. Not thread safe, callers hold the account's monitor.
+ */
+public class AccountActivity {
+
+  private final long[] times;
+  private final long[] amounts;
+  private int next;
+  private int size;
+
+  public AccountActivity(int capacity) {
+    this.times = new long[capacity];
+    this.amounts = new long[capacity];
+  }
+
+  public void record(long time, long amount) {
+    times[next] = time;
+    amounts[next] = amount;
+    next = (next + 1) % times.length;
+    if (size < times.length) {
+      size++;
+    }
+  }
+
+  /**
+   * Number of recorded debits at or after the given time, at most the capacity.
+   */
+  public int countSince(long since) {
+    int count = 0;
+    for (int i = 1; i <= size; i++) {
+      if (times[index(i)] - since < 0) {
+        break;
+      }
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Sum of recorded debits at or after the given time, in minor units, saturated at Long.MAX_VALUE.
+   * Recorded amounts are never negative.
+   */
+  public long sumSince(long since) {
+    long sum = 0;
+    for (int i = 1; i <= size; i++) {
+      int index = index(i);
+      if (times[index] - since < 0) {
+        break;
+      }
+      if (sum > Long.MAX_VALUE - amounts[index]) {
+        return Long.MAX_VALUE;
+      }
+      sum += amounts[index];
+    }
+    return sum;
+  }
+
+  /**
+   * Whether every debit at or after the given time is still recorded, i.e. the buffer is not full or its
+   * oldest entry is before that time.
+   */
+  public boolean coversSince(long since) {
+    return size < times.length || times[index(size)] - since < 0;
+  }
+
+  public int getCapacity() {
+    return times.length;
+  }
+
+  /** Index of the i-th most recent entry, starting at 1. */
+  private int index(int i) {
+    return (next - i + times.length) % times.length;
+  }
+}
@@ -0,0 +1,66 @@
+package com.db.awmd.challenge.domain;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of FX rates. All cross rates are computed once when the table is built,
+ * so rate lookups are two map reads and an array access - no locking and no allocation.
+ * A new table is built for every rate update and swapped in as a whole.
+ */
+public final class FxRateTable {
+
+  public static final FxRateTable EMPTY = new FxRateTable(new HashMap<>(), new BigDecimal[0][0]);
+
+  private final Map<Currency, Integer> index;
+  private final BigDecimal[][] rates;
+
+  private FxRateTable(Map<Currency, Integer> index, BigDecimal[][] rates) {
+    this.index = index;
+    this.rates = rates;
+  }
+
+  /**
+   * Builds a table from rates quoted against a single base currency.
+   * @param base currency the rates are quoted against
+   * @param unitsPerBase units of each currency for one unit of base
+   */
+  public static FxRateTable fromBaseRates(Currency base, Map<Currency, BigDecimal> unitsPerBase) {
+    Map<Currency, BigDecimal> all = new HashMap<>(unitsPerBase);
+    all.put(base, BigDecimal.ONE);
+
+    Currency[] currencies = all.keySet().toArray(new Currency[0]);
+    Map<Currency, Integer> index = new HashMap<>();
+    BigDecimal[][] rates = new BigDecimal[currencies.length][currencies.length];
+    for (int i = 0; i < currencies.length; i++) {
+      index.put(currencies[i], i);
+    }
+    for (int from = 0; from < currencies.length; from++) {
+      BigDecimal fromPerBase = all.get(currencies[from]);
+      for (int to = 0; to < currencies.length; to++) {
+        rates[from][to] = from == to ? BigDecimal.ONE
+          : all.get(currencies[to]).divide(fromPerBase, MathContext.DECIMAL64);
+      }
+    }
+    return new FxRateTable(index, rates);
+  }
+
+  /**
+   * Returns units of 'to' for one unit of 'from', or null when either currency is unknown.
+   */
+  public BigDecimal getRate(Currency from, Currency to) {
+    Integer fromIndex = index.get(from);
+    Integer toIndex = index.get(to);
+    if (fromIndex == null || toIndex == null) {
+      return null;
+    }
+    return rates[fromIndex][toIndex];
+  }
+
+  public int size() {
+    return rates.length;
+  }
+}
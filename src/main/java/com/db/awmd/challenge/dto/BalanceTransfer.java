@@ -1,9 +1,11 @@
 package com.db.awmd.challenge.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
-import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.util.Currency;
 
 @Getter
 public class BalanceTransfer {
@@ -11,9 +13,23 @@ public class BalanceTransfer {
     private final String toAccount;
     private final BigDecimal transferAmount;
 
+    /**
+     * Currency of transferAmount. When null the amount is in the currency of fromAccount.
+     */
+    private final Currency currency;
+
     public BalanceTransfer(String fromAccount, String toAccount, BigDecimal transferAmount) {
+        this(fromAccount, toAccount, transferAmount, null);
+    }
+
+    @JsonCreator
+    public BalanceTransfer(@JsonProperty("fromAccount") String fromAccount,
+                           @JsonProperty("toAccount") String toAccount,
+                           @JsonProperty("transferAmount") BigDecimal transferAmount,
+                           @JsonProperty("currency") Currency currency) {
         this.fromAccount = fromAccount;
         this.toAccount = toAccount;
         this.transferAmount = transferAmount;
+        this.currency = currency;
     }
 }
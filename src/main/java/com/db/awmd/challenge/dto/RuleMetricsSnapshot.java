@@ -0,0 +1,28 @@
+package com.db.awmd.challenge.dto;
+
+import lombok.Getter;
+
+/**
+ * Latencies in nanoseconds. Percentiles are upper bounds of power of two buckets.
+ */
+@Getter
+public class RuleMetricsSnapshot {
+    private final String rule;
+    private final long evaluations;
+    private final long rejections;
+    private final long meanNanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    public RuleMetricsSnapshot(String rule, long evaluations, long rejections, long meanNanos, long p99Nanos,
+                               long p999Nanos, long maxNanos) {
+        this.rule = rule;
+        this.evaluations = evaluations;
+        this.rejections = rejections;
+        this.meanNanos = meanNanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+}
@@ -0,0 +1,79 @@
+package com.db.awmd.challenge.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Marker;
+
+/**
+ * Keeps one in N events of a logger category (logger name prefix), configured in logback-spring.xml as
+ * <pre>
+ *   &lt;category&gt;com.db.awmd.challenge.service.EmailNotificationService=100&lt;/category&gt;
+ * </pre>
+ * Turbo filters run before the logging event is created, so a sampled out call costs a random draw
+ * and no allocation. Each event is kept with probability 1/N, independently of the others: a shared
+ * counter would be contended across request threads and, with a category logging twice per transfer,
+ * could keep only every first line. WARN and ERROR are never sampled, and turbo filters run before
+ * the level check, so disabled levels are passed on untouched to be dropped there.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+  private final List<String> pendingCategories = new ArrayList<>();
+
+  private String[] prefixes = new String[0];
+  private long[] rates = new long[0];
+
+  /**
+   * @param category logger name prefix and sampling rate, as 'prefix=N'
+   */
+  public void addCategory(String category) {
+    pendingCategories.add(category);
+  }
+
+  @Override
+  public void start() {
+    int size = pendingCategories.size();
+    String[] prefixes = new String[size];
+    long[] rates = new long[size];
+    for (int i = 0; i < size; i++) {
+      String category = pendingCategories.get(i);
+      int separator = category.lastIndexOf('=');
+      if (separator < 1) {
+        addError("Category [" + category + "] must be given as 'prefix=N'");
+        return;
+      }
+      prefixes[i] = category.substring(0, separator).trim();
+      try {
+        rates[i] = Long.parseLong(category.substring(separator + 1).trim());
+      } catch (NumberFormatException e) {
+        addError("Sampling rate of [" + prefixes[i] + "] is not a number");
+        return;
+      }
+      if (rates[i] < 1) {
+        addError("Sampling rate of [" + prefixes[i] + "] must be at least 1");
+        return;
+      }
+    }
+    this.prefixes = prefixes;
+    this.rates = rates;
+    super.start();
+  }
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    if (level == null || level.isGreaterOrEqual(Level.WARN) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+      return FilterReply.NEUTRAL;
+    }
+    String name = logger.getName();
+    for (int i = 0; i < prefixes.length; i++) {
+      if (name.startsWith(prefixes[i])) {
+        return rates[i] == 1 || ThreadLocalRandom.current().nextLong(rates[i]) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+      }
+    }
+    return FilterReply.NEUTRAL;
+  }
+}
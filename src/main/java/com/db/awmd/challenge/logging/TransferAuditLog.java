@@ -0,0 +1,83 @@
+package com.db.awmd.challenge.logging;
+
+import com.db.awmd.challenge.dto.BalanceTransfer;
+import java.math.BigDecimal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Audit trail of every transfer, committed, rejected or failed, as one key=value line per transfer.
+ *
+ * Account ids, reasons and errors come from the client, so they are always written quoted and escaped: a value can
+ * neither add keys nor break the line. Amounts and currency codes are parsed values and are written as they are.
+ *
+ * The AUDIT.transfer logger is routed in logback-spring.xml to a blocking asynchronous appender in front of a
+ * rolling file: it is never sampled and never drops events, a full queue slows the caller down instead.
+ */
+@Component
+public class TransferAuditLog {
+
+  public static final String LOGGER_NAME = "AUDIT.transfer";
+
+  private static final Logger audit = LoggerFactory.getLogger(LOGGER_NAME);
+
+  public void committed(BalanceTransfer balanceTransfer, BigDecimal debitAmount, BigDecimal creditAmount) {
+    audit.info("status=COMMITTED from={} to={} amount={} currency={} debit={} credit={}",
+      quote(balanceTransfer.getFromAccount()), quote(balanceTransfer.getToAccount()),
+      balanceTransfer.getTransferAmount(), balanceTransfer.getCurrency(), debitAmount, creditAmount);
+  }
+
+  public void rejected(BalanceTransfer balanceTransfer, String reason) {
+    audit.info("status=REJECTED from={} to={} amount={} currency={} reason={}",
+      quote(balanceTransfer.getFromAccount()), quote(balanceTransfer.getToAccount()),
+      balanceTransfer.getTransferAmount(), balanceTransfer.getCurrency(), quote(reason));
+  }
+
+  /**
+   * Transfer aborted by an unexpected error, balances were not changed.
+   */
+  public void failed(BalanceTransfer balanceTransfer, String error) {
+    audit.info("status=FAILED from={} to={} amount={} currency={} error={}",
+      quote(balanceTransfer.getFromAccount()), quote(balanceTransfer.getToAccount()),
+      balanceTransfer.getTransferAmount(), balanceTransfer.getCurrency(), quote(error));
+  }
+
+  /**
+   * Double quoted value with backslash, quote, tab, CR and LF escaped and any other control or line separator
+   * character written as a backslash-u escape. null is written unquoted.
+   */
+  static String quote(String value) {
+    if (value == null) {
+      return "null";
+    }
+    StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          quoted.append("\\\"");
+          break;
+        case '\\':
+          quoted.append("\\\\");
+          break;
+        case '\t':
+          quoted.append("\\t");
+          break;
+        case '\r':
+          quoted.append("\\r");
+          break;
+        case '\n':
+          quoted.append("\\n");
+          break;
+        default:
+          if (c < 0x20 || (c >= 0x7f && c <= 0x9f) || c == 0x2028 || c == 0x2029) {
+            quoted.append(String.format("\\u%04x", (int) c));
+          } else {
+            quoted.append(c);
+          }
+      }
+    }
+    return quoted.append('"').toString();
+  }
+}
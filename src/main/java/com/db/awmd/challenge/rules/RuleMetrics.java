@@ -0,0 +1,65 @@
+package com.db.awmd.challenge.rules;
+
+import com.db.awmd.challenge.dto.RuleMetricsSnapshot;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluation count, rejections and latency of one rule. Latencies go to power of two buckets,
+ * so recording is a few atomic increments and percentiles are reported as the bucket's upper bound.
+ */
+public class RuleMetrics {
+
+  private static final int BUCKETS = 64;
+
+  private final String ruleName;
+  private final LongAdder evaluations = new LongAdder();
+  private final LongAdder rejections = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final AtomicLong maxNanos = new AtomicLong();
+  private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+  public RuleMetrics(String ruleName) {
+    this.ruleName = ruleName;
+  }
+
+  public void record(long nanos, boolean rejected) {
+    evaluations.increment();
+    if (rejected) {
+      rejections.increment();
+    }
+    totalNanos.add(nanos);
+    histogram.incrementAndGet(bucket(nanos));
+    long max = maxNanos.get();
+    while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+      max = maxNanos.get();
+    }
+  }
+
+  public RuleMetricsSnapshot snapshot() {
+    long count = evaluations.sum();
+    return new RuleMetricsSnapshot(ruleName, count, rejections.sum(),
+      count == 0 ? 0 : totalNanos.sum() / count, percentile(99), percentile(99.9), maxNanos.get());
+  }
+
+  private long percentile(double percentile) {
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      total += histogram.get(i);
+    }
+    long threshold = (long) Math.ceil(total * percentile / 100);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += histogram.get(i);
+      if (seen >= threshold && seen > 0) {
+        return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+      }
+    }
+    return 0;
+  }
+
+  private static int bucket(long nanos) {
+    return nanos <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+  }
+}
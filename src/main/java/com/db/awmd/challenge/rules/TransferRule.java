@@ -0,0 +1,21 @@
+package com.db.awmd.challenge.rules;
+
+import com.db.awmd.challenge.domain.Account;
+
+/**
+ * Check run by TransferRuleStage before a transfer is committed. Rules are Spring beans, ordered with @Order.
+ *
+ * check is called on the transfer path while both accounts are locked, so implementations must be fast and
+ * should not allocate: return a preallocated reason to reject, the exception is built by the stage.
+ */
+public interface TransferRule {
+
+  String getName();
+
+  /**
+   * @param amount debit in minor units of the currency of fromAccount
+   * @param now System.nanoTime of the transfer
+   * @return null to allow the transfer, otherwise the reason for rejecting it
+   */
+  String check(Account fromAccount, Account toAccount, long amount, long now);
+}
@@ -0,0 +1,92 @@
+package com.db.awmd.challenge.rules;
+
+import com.db.awmd.challenge.domain.Account;
+import com.db.awmd.challenge.domain.AccountActivity;
+import com.db.awmd.challenge.dto.RuleMetricsSnapshot;
+import com.db.awmd.challenge.exception.BalanceTransferException;
+import com.db.awmd.challenge.service.FxRateService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs all TransferRule beans, in @Order, before a transfer is committed and records the debit in the
+ * account's activity once they all pass.
+ *
+ * Called by AccountsService while it holds the locks of both accounts, so the per-account ring buffers need
+ * no locking of their own and check and record are atomic with the balance update. Apart from the first transfer
+ * of an account (creating its ring buffer) and converting the debit to minor units, a passing transfer allocates nothing.
+ * A debit that is negative, not a whole number of minor units or too large for a long is rejected.
+ * A rule that throws is counted as a rejection in its metrics and its exception rejects the transfer.
+ */
+@Component
+public class TransferRuleStage {
+
+  private final TransferRule[] rules;
+  private final RuleMetrics[] metrics;
+  private final int history;
+
+  @Autowired
+  public TransferRuleStage(List<TransferRule> rules, @Value("${transfer.velocity.history:64}") int history) {
+    this.rules = rules.toArray(new TransferRule[0]);
+    this.metrics = new RuleMetrics[this.rules.length];
+    for (int i = 0; i < this.rules.length; i++) {
+      metrics[i] = new RuleMetrics(this.rules[i].getName());
+    }
+    this.history = history;
+  }
+
+  public void evaluate(Account fromAccount, Account toAccount, BigDecimal debitAmount) {
+    evaluate(fromAccount, toAccount, debitAmount, System.nanoTime());
+  }
+
+  /**
+   * Throws BalanceTransferException when a rule rejects the transfer, otherwise records the debit.
+   * The caller must hold the monitors of both accounts.
+   */
+  public void evaluate(Account fromAccount, Account toAccount, BigDecimal debitAmount, long now) {
+    AccountActivity activity = fromAccount.getActivity();
+    if (activity == null) {
+      activity = new AccountActivity(history);
+      fromAccount.setActivity(activity);
+    }
+    long amount;
+    try {
+      amount = debitAmount.movePointRight(FxRateService.fractionDigits(fromAccount.getCurrency())).longValueExact();
+    } catch (ArithmeticException ex) {
+      amount = -1;
+    }
+    if (amount < 0) {
+      throw new BalanceTransferException("Exception in balance transfer. Amount [" + debitAmount
+        + "] can not be checked by transfer rules.");
+    }
+
+    for (int i = 0; i < rules.length; i++) {
+      long start = System.nanoTime();
+      String rejection;
+      try {
+        rejection = rules[i].check(fromAccount, toAccount, amount, now);
+      } catch (RuntimeException ex) {
+        metrics[i].record(System.nanoTime() - start, true);
+        throw ex;
+      }
+      metrics[i].record(System.nanoTime() - start, rejection != null);
+      if (rejection != null) {
+        throw new BalanceTransferException("Exception in balance transfer. Account [" + fromAccount.getAccountId()
+          + "] rejected by rule [" + rules[i].getName() + "]. " + rejection);
+      }
+    }
+    activity.record(now, amount);
+  }
+
+  public List<RuleMetricsSnapshot> getMetrics() {
+    List<RuleMetricsSnapshot> snapshots = new ArrayList<>(metrics.length);
+    for (RuleMetrics ruleMetrics : metrics) {
+      snapshots.add(ruleMetrics.snapshot());
+    }
+    return snapshots;
+  }
+}
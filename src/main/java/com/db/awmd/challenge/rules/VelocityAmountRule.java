@@ -0,0 +1,130 @@
+package com.db.awmd.challenge.rules;
+
+import com.db.awmd.challenge.domain.Account;
+import com.db.awmd.challenge.domain.AccountActivity;
+import com.db.awmd.challenge.domain.FxRateTable;
+import com.db.awmd.challenge.service.FxRateService;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits the total amount debited per account within a sliding window. The limit is given in a reference
+ * currency and converted to the account currency with the current FX rates. Only the last
+ * transfer.velocity.history debits are kept, so when all of them are inside the window the sum is unknown and the
+ * transfer is rejected. Disabled when max-amount is 0.
+ *
+ * Converted limits are cached per currency until the FX rate table is replaced, so a check is a map read.
+ * Without a rate between the reference and the account currency the limit can not be checked and the
+ * transfer is rejected, also when the transfer itself needs no rate (e.g. SEK to SEK).
+ */
+@Component
+@Order(2)
+public class VelocityAmountRule implements TransferRule {
+
+  /**
+   * Cached in place of a limit that can not be converted to the account currency.
+   */
+  private static final long NO_LIMIT = -1;
+
+  private final long windowNanos;
+  private final BigDecimal maxAmount;
+  private final Currency referenceCurrency;
+  private final FxRateService fxRateService;
+  private final String rejection;
+  private final String unconvertible;
+  private final String uncovered;
+
+  private volatile Limits limits = new Limits(null);
+
+  @Autowired
+  public VelocityAmountRule(@Value("${transfer.velocity.window-ms:60000}") long windowMillis,
+    @Value("${transfer.velocity.max-amount:10000}") BigDecimal maxAmount,
+    @Value("${transfer.velocity.currency:EUR}") String referenceCurrency,
+    FxRateService fxRateService) {
+    this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    this.maxAmount = maxAmount;
+    this.referenceCurrency = Currency.getInstance(referenceCurrency);
+    this.fxRateService = fxRateService;
+    this.rejection = "More than " + maxAmount.toPlainString() + " " + referenceCurrency + " transferred in "
+      + windowMillis + " ms.";
+    this.unconvertible = "Limit of " + maxAmount.toPlainString() + " " + referenceCurrency
+      + " can not be converted to the account currency.";
+    this.uncovered = "Too many transfers in " + windowMillis + " ms to check the amount transferred.";
+  }
+
+  @Override
+  public String getName() {
+    return "velocity-amount";
+  }
+
+  @Override
+  public String check(Account fromAccount, Account toAccount, long amount, long now) {
+    if (maxAmount.signum() <= 0) {
+      return null;
+    }
+    long limit = limitFor(fromAccount.getCurrency());
+    if (limit == NO_LIMIT) {
+      return unconvertible;
+    }
+    AccountActivity activity = fromAccount.getActivity();
+    long since = now - windowNanos;
+    if (!activity.coversSince(since)) {
+      return uncovered;
+    }
+    long sum = activity.sumSince(since);
+    long total = sum > Long.MAX_VALUE - amount ? Long.MAX_VALUE : sum + amount;
+    if (total > limit) {
+      return rejection;
+    }
+    return null;
+  }
+
+  /**
+   * The limit in minor units of the given currency, saturated at Long.MAX_VALUE, or NO_LIMIT when the rate
+   * table has no rate from the reference currency.
+   */
+  private long limitFor(Currency currency) {
+    FxRateTable rateTable = fxRateService.getRateTable();
+    Limits current = limits;
+    if (current.rateTable != rateTable) {
+      current = new Limits(rateTable);
+      limits = current;
+    }
+    Long limit = current.byCurrency.get(currency);
+    if (limit == null) {
+      BigDecimal rate = referenceCurrency.equals(currency) ? BigDecimal.ONE : rateTable.getRate(referenceCurrency, currency);
+      if (rate == null) {
+        limit = NO_LIMIT;
+      } else {
+        int digits = FxRateService.fractionDigits(currency);
+        try {
+          limit = maxAmount.multiply(rate).setScale(digits, RoundingMode.HALF_EVEN).movePointRight(digits).longValueExact();
+        } catch (ArithmeticException e) {
+          limit = Long.MAX_VALUE;
+        }
+      }
+      current.byCurrency.put(currency, limit);
+    }
+    return limit;
+  }
+
+  /**
+   * Limits converted with one rate table.
+   */
+  private static class Limits {
+    private final FxRateTable rateTable;
+    private final Map<Currency, Long> byCurrency = new ConcurrentHashMap<>();
+
+    private Limits(FxRateTable rateTable) {
+      this.rateTable = rateTable;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.db.awmd.challenge.rules;
+
+import com.db.awmd.challenge.domain.Account;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits the number of debits per account within a sliding window. Disabled when max-count is 0.
+ */
+@Component
+@Order(1)
+public class VelocityCountRule implements TransferRule {
+
+  private final long windowNanos;
+  private final int maxCount;
+  private final String rejection;
+
+  @Autowired
+  public VelocityCountRule(@Value("${transfer.velocity.window-ms:60000}") long windowMillis,
+    @Value("${transfer.velocity.max-count:20}") int maxCount,
+    @Value("${transfer.velocity.history:64}") int history) {
+    if (maxCount > history) {
+      throw new IllegalArgumentException("transfer.velocity.max-count can not be above transfer.velocity.history");
+    }
+    this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    this.maxCount = maxCount;
+    this.rejection = "More than " + maxCount + " transfers in " + windowMillis + " ms.";
+  }
+
+  @Override
+  public String getName() {
+    return "velocity-count";
+  }
+
+  @Override
+  public String check(Account fromAccount, Account toAccount, long amount, long now) {
+    if (maxCount > 0 && fromAccount.getActivity().countSince(now - windowNanos) >= maxCount) {
+      return rejection;
+    }
+    return null;
+  }
+}
@@ -3,7 +3,9 @@ package com.db.awmd.challenge.service;
 import com.db.awmd.challenge.domain.Account;
 import com.db.awmd.challenge.dto.BalanceTransfer;
 import com.db.awmd.challenge.exception.BalanceTransferException;
+import com.db.awmd.challenge.logging.TransferAuditLog;
 import com.db.awmd.challenge.repository.AccountsRepository;
+import com.db.awmd.challenge.rules.TransferRuleStage;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +16,7 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Currency;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -28,9 +31,19 @@ public class AccountsService {
   @Getter
   private final AccountsRepository accountsRepository;
 
+  private final FxRateService fxRateService;
+
+  private final TransferAuditLog transferAuditLog;
+
+  private final TransferRuleStage transferRuleStage;
+
   @Autowired
-  public AccountsService(AccountsRepository accountsRepository) {
+  public AccountsService(AccountsRepository accountsRepository, FxRateService fxRateService,
+    TransferAuditLog transferAuditLog, TransferRuleStage transferRuleStage) {
     this.accountsRepository = accountsRepository;
+    this.fxRateService = fxRateService;
+    this.transferAuditLog = transferAuditLog;
+    this.transferRuleStage = transferRuleStage;
   }
 
   @Autowired
@@ -53,10 +66,25 @@ public class AccountsService {
    * supporting dependent functions and actions that trigger upon its completion.
    *
    * When two or more threads attempt to complete, completeExceptionally, or cancel a CompletableFuture, only one of them succeeds.
+   *
+   * Every transfer is written to the transfer audit log: committed, rejected by a business rule or failed.
+   * A transfer the async executor refuses (TaskRejectedException) never reaches this method and is audited by the caller.
    */
   @Async
   @SneakyThrows
   public CompletableFuture<List<Account>> transferBalance(BalanceTransfer balanceTransfer) {
+    try {
+      return CompletableFuture.completedFuture(commitTransfer(balanceTransfer));
+    } catch (BalanceTransferException ex) {
+      transferAuditLog.rejected(balanceTransfer, ex.getMessage());
+      throw ex;
+    } catch (RuntimeException | Error ex) {
+      transferAuditLog.failed(balanceTransfer, ex.toString());
+      throw ex;
+    }
+  }
+
+  private List<Account> commitTransfer(BalanceTransfer balanceTransfer) {
     List<Account> updatedaccounts = new ArrayList<>();
 
     if(balanceTransfer.getTransferAmount().compareTo(BigDecimal.ZERO) < 0){
@@ -73,20 +101,55 @@ public class AccountsService {
       throw new BalanceTransferException("Exception in balance transfer. Account ["+balanceTransfer.getToAccount()+"] does not exist.");
     }
 
-    if(fromAccount.getBalance().compareTo(balanceTransfer.getTransferAmount()) < 0)  {
-      throw new BalanceTransferException("Exception in balance transfer. Insufficient funds. Account ["+balanceTransfer.getFromAccount()+"] does not have sufficient balance to perform this transfer");
+    Currency transferCurrency = balanceTransfer.getCurrency() == null ? fromAccount.getCurrency() : balanceTransfer.getCurrency();
+    if(balanceTransfer.getTransferAmount().stripTrailingZeros().scale() > FxRateService.fractionDigits(transferCurrency)) {
+      throw new BalanceTransferException("Exception in balance transfer. Amount ["+balanceTransfer.getTransferAmount()+"] has more decimal places than ["+transferCurrency+"] allows.");
     }
 
-    fromAccount.setBalance(fromAccount.getBalance().subtract(balanceTransfer.getTransferAmount()));
-    updatedaccounts.add(updateAccount(fromAccount));
+    // Both legs are rounded to the minor unit of their account currency.
+    BigDecimal debitAmount = fxRateService.convert(balanceTransfer.getTransferAmount(), transferCurrency, fromAccount.getCurrency());
+    BigDecimal creditAmount = fxRateService.convert(balanceTransfer.getTransferAmount(), transferCurrency, toAccount.getCurrency());
+    if(balanceTransfer.getTransferAmount().signum() > 0 && (debitAmount.signum() == 0 || creditAmount.signum() == 0)) {
+      throw new BalanceTransferException("Exception in balance transfer. Amount ["+balanceTransfer.getTransferAmount()+"] is too small to transfer from ["+fromAccount.getCurrency()+"] to ["+toAccount.getCurrency()+"].");
+    }
 
-    toAccount.setBalance(toAccount.getBalance().add(balanceTransfer.getTransferAmount()));
-    updatedaccounts.add(updateAccount(toAccount));
+    // Lock both accounts in account id order, so transfers in opposite directions can not deadlock.
+    boolean fromFirst = fromAccount.getAccountId().compareTo(toAccount.getAccountId()) <= 0;
+    Account firstLock = fromFirst ? fromAccount : toAccount;
+    Account secondLock = fromFirst ? toAccount : fromAccount;
+    BigDecimal fromBalance;
+    BigDecimal toBalance;
+    synchronized (firstLock) {
+      synchronized (secondLock) {
+        if(fromAccount.getBalance().compareTo(debitAmount) < 0)  {
+          throw new BalanceTransferException("Exception in balance transfer. Insufficient funds. Account ["+balanceTransfer.getFromAccount()+"] does not have sufficient balance to perform this transfer");
+        }
+
+        // Fraud and velocity checks, last step before the balances change.
+        transferRuleStage.evaluate(fromAccount, toAccount, debitAmount);
+
+        fromAccount.setBalance(fromAccount.getBalance().subtract(debitAmount));
+        updatedaccounts.add(updateAccount(fromAccount));
+
+        toAccount.setBalance(toAccount.getBalance().add(creditAmount));
+        updatedaccounts.add(updateAccount(toAccount));
+
+        fromBalance = fromAccount.getBalance();
+        toBalance = toAccount.getBalance();
+      }
+    }
 
-    notificationService.notifyAboutTransfer(fromAccount, "Amount ["+balanceTransfer.getTransferAmount()+"] debited from Account. Updated balance ["+fromAccount.getBalance()+"]");
-    notificationService.notifyAboutTransfer(toAccount, "Amount ["+balanceTransfer.getTransferAmount()+"] credited to Account. Updated balance ["+toAccount.getBalance()+"]");
+    // Audit as soon as the balances changed, nothing after this point may fail the transfer.
+    transferAuditLog.committed(balanceTransfer, debitAmount, creditAmount);
+
+    try {
+      notificationService.notifyAboutTransfer(fromAccount, "Amount ["+debitAmount+" "+fromAccount.getCurrency()+"] debited from Account. Updated balance ["+fromBalance+"]");
+      notificationService.notifyAboutTransfer(toAccount, "Amount ["+creditAmount+" "+toAccount.getCurrency()+"] credited to Account. Updated balance ["+toBalance+"]");
+    } catch (RuntimeException ex) {
+      log.error("Notification failed for committed transfer from {} to {}", fromAccount.getAccountId(), toAccount.getAccountId(), ex);
+    }
 
-    log.info("Balance Transfer Success. Server Thread = "+Thread.currentThread().getName());
-    return CompletableFuture.completedFuture(updatedaccounts);
+    log.debug("Balance transfer from {} to {} committed", fromAccount.getAccountId(), toAccount.getAccountId());
+    return updatedaccounts;
   }
 }
@@ -0,0 +1,82 @@
+package com.db.awmd.challenge.service;
+
+import com.db.awmd.challenge.domain.FxRateTable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import javax.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads FX rates from a local file feed (standing in for the live rate service) and publishes
+ * them to FxRateService. The feed is a properties file with a 'base' currency code and one
+ * entry per currency giving its units for one unit of base, e.g. USD=1.0850.
+ *
+ * A feed that can not be read or parsed is logged and the previous rates are kept.
+ * Never lazy, rates must be in place before the first transfer.
+ */
+@Component
+@Lazy(false)
+@Slf4j
+public class FxRateLoader {
+
+  static final String BASE_KEY = "base";
+
+  private final FxRateService fxRateService;
+  private final Resource location;
+
+  @Autowired
+  public FxRateLoader(FxRateService fxRateService,
+    @Value("${fx.rates.location:classpath:fx-rates.properties}") Resource location) {
+    this.fxRateService = fxRateService;
+    this.location = location;
+  }
+
+  @PostConstruct
+  @Scheduled(fixedDelayString = "${fx.rates.refresh-ms:60000}", initialDelayString = "${fx.rates.refresh-ms:60000}")
+  public void reload() {
+    try {
+      FxRateTable rateTable = load();
+      fxRateService.updateRateTable(rateTable);
+      log.info("Loaded {} FX currencies from {}", rateTable.size(), location);
+    } catch (IOException | IllegalArgumentException e) {
+      log.error("Could not load FX rates from {}, keeping previous rates: {}", location, e.getMessage());
+    }
+  }
+
+  FxRateTable load() throws IOException {
+    Properties properties = new Properties();
+    try (InputStream in = location.getInputStream()) {
+      properties.load(in);
+    }
+
+    String baseCode = properties.getProperty(BASE_KEY);
+    if (baseCode == null) {
+      throw new IllegalArgumentException("Missing '" + BASE_KEY + "' currency");
+    }
+    Currency base = Currency.getInstance(baseCode.trim());
+
+    Map<Currency, BigDecimal> unitsPerBase = new HashMap<>();
+    for (String code : properties.stringPropertyNames()) {
+      if (BASE_KEY.equals(code)) {
+        continue;
+      }
+      BigDecimal rate = new BigDecimal(properties.getProperty(code).trim());
+      if (rate.signum() <= 0) {
+        throw new IllegalArgumentException("Rate for " + code + " must be positive");
+      }
+      unitsPerBase.put(Currency.getInstance(code.trim()), rate);
+    }
+    return FxRateTable.fromBaseRates(base, unitsPerBase);
+  }
+}
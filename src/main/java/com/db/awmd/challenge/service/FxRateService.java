@@ -0,0 +1,49 @@
+package com.db.awmd.challenge.service;
+
+import com.db.awmd.challenge.domain.FxRateTable;
+import com.db.awmd.challenge.exception.BalanceTransferException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import org.springframework.stereotype.Service;
+
+/**
+ * Holds the current FX rate table. Readers always see a complete snapshot, writers replace it
+ * as a whole (copy-on-write), so the transfer path never takes a lock to look up a rate.
+ */
+@Service
+public class FxRateService {
+
+  private volatile FxRateTable rateTable = FxRateTable.EMPTY;
+
+  public FxRateTable getRateTable() {
+    return rateTable;
+  }
+
+  public void updateRateTable(FxRateTable rateTable) {
+    this.rateTable = rateTable;
+  }
+
+  /**
+   * Converts amount from one currency to another, rounded HALF_EVEN to the minor unit of the target currency.
+   * Amounts in the same currency get the same scale, so both legs of a transfer are rounded alike.
+   */
+  public BigDecimal convert(BigDecimal amount, Currency from, Currency to) {
+    if (from.equals(to)) {
+      return amount.setScale(fractionDigits(to), RoundingMode.HALF_EVEN);
+    }
+    BigDecimal rate = rateTable.getRate(from, to);
+    if (rate == null) {
+      throw new BalanceTransferException("Exception in balance transfer. No FX rate available for ["
+        + from.getCurrencyCode() + "] to [" + to.getCurrencyCode() + "].");
+    }
+    return amount.multiply(rate).setScale(fractionDigits(to), RoundingMode.HALF_EVEN);
+  }
+
+  /**
+   * Decimal places of the minor unit, 0 for currencies without one (e.g. XAU).
+   */
+  public static int fractionDigits(Currency currency) {
+    return Math.max(0, currency.getDefaultFractionDigits());
+  }
+}
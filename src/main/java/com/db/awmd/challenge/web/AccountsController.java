@@ -4,22 +4,22 @@ import com.db.awmd.challenge.domain.Account;
 import com.db.awmd.challenge.dto.BalanceTransfer;
 import com.db.awmd.challenge.exception.BalanceTransferException;
 import com.db.awmd.challenge.exception.DuplicateAccountIdException;
+import com.db.awmd.challenge.logging.TransferAuditLog;
 import com.db.awmd.challenge.service.AccountsService;
 
 import javax.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.context.annotation.RequestScope;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -32,15 +32,16 @@ import java.util.concurrent.ExecutionException;
 @RestController
 @RequestMapping("/v1/accounts")
 @Slf4j
-@Component
-@RequestScope
 public class AccountsController {
 
   private final AccountsService accountsService;
 
+  private final TransferAuditLog transferAuditLog;
+
   @Autowired
-  public AccountsController(AccountsService accountsService) {
+  public AccountsController(AccountsService accountsService, TransferAuditLog transferAuditLog) {
     this.accountsService = accountsService;
+    this.transferAuditLog = transferAuditLog;
   }
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -64,7 +65,7 @@ public class AccountsController {
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, path = "/transfer")
   public ResponseEntity<Object> balanceTransfer(@RequestBody @Valid BalanceTransfer balanceTransfer) {
-    log.info("Performing balance transfer {}", balanceTransfer);
+    log.debug("Performing balance transfer from {} to {}", balanceTransfer.getFromAccount(), balanceTransfer.getToAccount());
     try {
       //Waits if necessary for this future to complete, and then returns its result.
       this.accountsService.transferBalance(balanceTransfer).get();//success, if no exception is thrown
@@ -75,6 +76,11 @@ public class AccountsController {
     } catch (InterruptedException e) {
       log.error(e.getMessage());
       return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    } catch (TaskRejectedException ex) {
+      // The async executor is saturated, transferBalance never ran and could not audit the transfer itself.
+      transferAuditLog.failed(balanceTransfer, ex.toString());
+      log.error(ex.getMessage());
+      return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
     }
   }
 
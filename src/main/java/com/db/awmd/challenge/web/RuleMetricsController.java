@@ -0,0 +1,26 @@
+package com.db.awmd.challenge.web;
+
+import com.db.awmd.challenge.dto.RuleMetricsSnapshot;
+import com.db.awmd.challenge.rules.TransferRuleStage;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/v1/rules")
+public class RuleMetricsController {
+
+  private final TransferRuleStage transferRuleStage;
+
+  @Autowired
+  public RuleMetricsController(TransferRuleStage transferRuleStage) {
+    this.transferRuleStage = transferRuleStage;
+  }
+
+  @GetMapping(path = "/metrics")
+  public List<RuleMetricsSnapshot> getMetrics() {
+    return this.transferRuleStage.getMetrics();
+  }
+}
@@ -1,21 +1,34 @@
 package com.db.awmd.challenge;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
 
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import com.db.awmd.challenge.domain.Account;
+import com.db.awmd.challenge.dto.BalanceTransfer;
+import com.db.awmd.challenge.logging.TransferAuditLog;
 import com.db.awmd.challenge.service.AccountsService;
+import com.db.awmd.challenge.web.AccountsController;
 import java.math.BigDecimal;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -100,7 +113,7 @@ public class AccountsControllerTest {
     this.mockMvc.perform(get("/v1/accounts/" + uniqueAccountId))
       .andExpect(status().isOk())
       .andExpect(
-        content().string("{\"accountId\":\"" + uniqueAccountId + "\",\"balance\":123.45}"));
+        content().string("{\"accountId\":\"" + uniqueAccountId + "\",\"balance\":123.45,\"currency\":\"EUR\"}"));
   }
 
   @Test
@@ -122,6 +135,81 @@ public class AccountsControllerTest {
 
   }
 
+  @Test
+  public void balanceTransferCrossCurrency_Pass() throws Exception {
+    this.mockMvc.perform(post("/v1/accounts").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"accountId\":\"ACC-TEST6-1\",\"balance\":1000,\"currency\":\"EUR\"}")).andExpect(status().isCreated());
+
+    this.mockMvc.perform(post("/v1/accounts").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"accountId\":\"ACC-TEST6-2\",\"balance\":1000,\"currency\":\"USD\"}")).andExpect(status().isCreated());
+
+    this.mockMvc.perform(post("/v1/accounts/transfer").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"fromAccount\":\"ACC-TEST6-1\",\"toAccount\":\"ACC-TEST6-2\",\"transferAmount\":100}")).andExpect(status().isCreated());
+
+    assertThat(accountsService.getAccount("ACC-TEST6-1").getBalance()).isEqualByComparingTo("900");
+    // EUR to USD is 1.0850 in the shipped fx-rates.properties
+    assertThat(accountsService.getAccount("ACC-TEST6-2").getBalance()).isEqualByComparingTo("1108.50");
+  }
+
+  @Test
+  public void balanceTransfer_failsOnVelocityLimit() throws Exception {
+    this.mockMvc.perform(post("/v1/accounts").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"accountId\":\"ACC-TEST7-1\",\"balance\":1000}")).andExpect(status().isCreated());
+
+    this.mockMvc.perform(post("/v1/accounts").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"accountId\":\"ACC-TEST7-2\",\"balance\":1000}")).andExpect(status().isCreated());
+
+    // transfer.velocity.max-count is 20 per minute
+    for (int i = 0; i < 20; i++) {
+      this.mockMvc.perform(post("/v1/accounts/transfer").contentType(MediaType.APPLICATION_JSON)
+              .content("{\"fromAccount\":\"ACC-TEST7-1\",\"toAccount\":\"ACC-TEST7-2\",\"transferAmount\":1}")).andExpect(status().isCreated());
+    }
+
+    Logger auditLogger = (Logger) LoggerFactory.getLogger(TransferAuditLog.LOGGER_NAME);
+    ListAppender<ILoggingEvent> audit = new ListAppender<>();
+    audit.start();
+    auditLogger.addAppender(audit);
+    try {
+      MvcResult result = this.mockMvc.perform(post("/v1/accounts/transfer").contentType(MediaType.APPLICATION_JSON)
+              .content("{\"fromAccount\":\"ACC-TEST7-1\",\"toAccount\":\"ACC-TEST7-2\",\"transferAmount\":1}")).andExpect(status().isBadRequest()).andReturn();
+      assertThat(result.getResponse().getContentAsString()).contains("rejected by rule [velocity-count]");
+    } finally {
+      auditLogger.detachAppender(audit);
+    }
+
+    assertThat(accountsService.getAccount("ACC-TEST7-1").getBalance()).isEqualByComparingTo("980");
+    assertThat(accountsService.getAccount("ACC-TEST7-2").getBalance()).isEqualByComparingTo("1020");
+    assertThat(audit.list).hasSize(1);
+    assertThat(audit.list.get(0).getFormattedMessage())
+      .startsWith("status=REJECTED from=\"ACC-TEST7-1\" to=\"ACC-TEST7-2\" amount=1 ")
+      .contains("rejected by rule [velocity-count]");
+  }
+
+  @Test
+  public void balanceTransfer_auditsExecutorRejection() {
+    AccountsService saturatedService = mock(AccountsService.class);
+    when(saturatedService.transferBalance(any(BalanceTransfer.class)))
+      .thenThrow(new TaskRejectedException("Executor did not accept task"));
+    AccountsController controller = new AccountsController(saturatedService, new TransferAuditLog());
+
+    Logger auditLogger = (Logger) LoggerFactory.getLogger(TransferAuditLog.LOGGER_NAME);
+    ListAppender<ILoggingEvent> audit = new ListAppender<>();
+    audit.start();
+    auditLogger.addAppender(audit);
+    ResponseEntity<Object> response;
+    try {
+      response = controller.balanceTransfer(new BalanceTransfer("ACC-TEST8-1", "ACC-TEST8-2", new BigDecimal("10")));
+    } finally {
+      auditLogger.detachAppender(audit);
+    }
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    assertThat(audit.list).hasSize(1);
+    assertThat(audit.list.get(0).getFormattedMessage())
+      .startsWith("status=FAILED from=\"ACC-TEST8-1\" to=\"ACC-TEST8-2\" amount=10 ")
+      .contains("TaskRejectedException");
+  }
+
   @Test
   public void addAccount_failsOnNullFromAccount() throws Exception {
     this.mockMvc.perform(post("/v1/accounts").contentType(MediaType.APPLICATION_JSON)
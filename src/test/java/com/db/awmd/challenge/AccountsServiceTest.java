@@ -4,11 +4,22 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 
 import com.db.awmd.challenge.domain.Account;
+import com.db.awmd.challenge.domain.FxRateTable;
 import com.db.awmd.challenge.dto.BalanceTransfer;
 import com.db.awmd.challenge.exception.BalanceTransferException;
 import com.db.awmd.challenge.exception.DuplicateAccountIdException;
+import com.db.awmd.challenge.load.LoadConfig;
+import com.db.awmd.challenge.load.LoadGenerator;
+import com.db.awmd.challenge.load.LoadReport;
+import com.db.awmd.challenge.load.ServiceTransferTarget;
 import com.db.awmd.challenge.service.AccountsService;
+import com.db.awmd.challenge.service.FxRateLoader;
+import com.db.awmd.challenge.service.FxRateService;
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.concurrent.ExecutionException;
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,12 +27,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 
 @RunWith(SpringRunner.class)
-@SpringBootTest
+// Velocity rules off, they would reject most transfers of the load test.
+@SpringBootTest(properties = {"transfer.velocity.max-count=0", "transfer.velocity.max-amount=0"})
 public class AccountsServiceTest {
 
   @Autowired
   private AccountsService accountsService;
 
+  @Autowired
+  private FxRateService fxRateService;
+
+  @Autowired
+  private FxRateLoader fxRateLoader;
+
+  @After
+  public void restoreFxRates() {
+    // Tests may replace the rate table, put the configured feed back for the next test.
+    fxRateLoader.reload();
+  }
+
   @Test
   public void addAccount() throws Exception {
     Account account = new Account("Id-123");
@@ -59,8 +83,8 @@ public class AccountsServiceTest {
     BalanceTransfer balanceTransfer = new BalanceTransfer("ACC-TEST1-1", "ACC-TEST1-2", new BigDecimal(300));
     this.accountsService.transferBalance(balanceTransfer);
 
-    assertThat(this.accountsService.getAccount("ACC-TEST1-1").getBalance()).isEqualTo(new BigDecimal(700));
-    assertThat(this.accountsService.getAccount("ACC-TEST1-2").getBalance()).isEqualTo(new BigDecimal(1300));
+    assertThat(this.accountsService.getAccount("ACC-TEST1-1").getBalance()).isEqualByComparingTo("700");
+    assertThat(this.accountsService.getAccount("ACC-TEST1-2").getBalance()).isEqualByComparingTo("1300");
   }
 
   @Test
@@ -135,4 +159,90 @@ public class AccountsServiceTest {
 
   }
 
+  @Test
+  public void balanceTransfer_convertsCurrency() throws Exception {
+    fxRateService.updateRateTable(FxRateTable.fromBaseRates(Currency.getInstance("EUR"),
+      Collections.singletonMap(Currency.getInstance("USD"), new BigDecimal("1.25"))));
+
+    this.accountsService.createAccount(new Account("ACC-FX-1", new BigDecimal(1000), Currency.getInstance("EUR")));
+    this.accountsService.createAccount(new Account("ACC-FX-2", new BigDecimal(1000), Currency.getInstance("USD")));
+
+    this.accountsService.transferBalance(new BalanceTransfer("ACC-FX-1", "ACC-FX-2", new BigDecimal(100))).get();
+    assertThat(this.accountsService.getAccount("ACC-FX-1").getBalance()).isEqualByComparingTo("900");
+    assertThat(this.accountsService.getAccount("ACC-FX-2").getBalance()).isEqualByComparingTo("1125");
+
+    this.accountsService.transferBalance(new BalanceTransfer("ACC-FX-1", "ACC-FX-2", new BigDecimal(50), Currency.getInstance("USD"))).get();
+    assertThat(this.accountsService.getAccount("ACC-FX-1").getBalance()).isEqualByComparingTo("860");
+    assertThat(this.accountsService.getAccount("ACC-FX-2").getBalance()).isEqualByComparingTo("1175");
+  }
+
+  @Test
+  public void balanceTransfer_failsOnMissingFxRate() throws Exception {
+    fxRateService.updateRateTable(FxRateTable.EMPTY);
+
+    this.accountsService.createAccount(new Account("ACC-FX-3", new BigDecimal(1000), Currency.getInstance("EUR")));
+    this.accountsService.createAccount(new Account("ACC-FX-4", new BigDecimal(1000), Currency.getInstance("GBP")));
+
+    try {
+      this.accountsService.transferBalance(new BalanceTransfer("ACC-FX-3", "ACC-FX-4", new BigDecimal(100))).get();
+      fail("Should have failed because there is no EUR to GBP rate");
+    } catch (ExecutionException ex) {
+      assertThat(ex.getCause()).isInstanceOf(BalanceTransferException.class);
+      assertThat(ex.getCause().getMessage()).isEqualTo("Exception in balance transfer. No FX rate available for [EUR] to [GBP].");
+    }
+    assertThat(this.accountsService.getAccount("ACC-FX-3").getBalance()).isEqualByComparingTo("1000");
+  }
+
+  @Test
+  public void balanceTransfer_failsOnTooManyDecimalPlaces() throws Exception {
+    this.accountsService.createAccount(new Account("ACC-FX-5", new BigDecimal(1000), Currency.getInstance("EUR")));
+    this.accountsService.createAccount(new Account("ACC-FX-6", new BigDecimal(1000), Currency.getInstance("USD")));
+
+    try {
+      this.accountsService.transferBalance(new BalanceTransfer("ACC-FX-5", "ACC-FX-6", new BigDecimal("0.004"), Currency.getInstance("USD"))).get();
+      fail("Should have failed because USD has two decimal places");
+    } catch (ExecutionException ex) {
+      assertThat(ex.getCause().getMessage()).isEqualTo("Exception in balance transfer. Amount [0.004] has more decimal places than [USD] allows.");
+    }
+    assertThat(this.accountsService.getAccount("ACC-FX-5").getBalance()).isEqualByComparingTo("1000");
+    assertThat(this.accountsService.getAccount("ACC-FX-6").getBalance()).isEqualByComparingTo("1000");
+  }
+
+  @Test
+  public void balanceTransfer_failsWhenLegConvertsToZero() throws Exception {
+    fxRateService.updateRateTable(FxRateTable.fromBaseRates(Currency.getInstance("EUR"),
+      Collections.singletonMap(Currency.getInstance("JPY"), new BigDecimal("250"))));
+
+    this.accountsService.createAccount(new Account("ACC-FX-7", new BigDecimal(1000), Currency.getInstance("JPY")));
+    this.accountsService.createAccount(new Account("ACC-FX-8", new BigDecimal(1000), Currency.getInstance("EUR")));
+
+    try {
+      // 1 JPY is 0.004 EUR, which rounds to 0.00
+      this.accountsService.transferBalance(new BalanceTransfer("ACC-FX-7", "ACC-FX-8", BigDecimal.ONE)).get();
+      fail("Should have failed because the credit rounds to zero");
+    } catch (ExecutionException ex) {
+      assertThat(ex.getCause().getMessage()).isEqualTo("Exception in balance transfer. Amount [1] is too small to transfer from [JPY] to [EUR].");
+    }
+    assertThat(this.accountsService.getAccount("ACC-FX-7").getBalance()).isEqualByComparingTo("1000");
+    assertThat(this.accountsService.getAccount("ACC-FX-8").getBalance()).isEqualByComparingTo("1000");
+  }
+
+  @Test
+  public void balanceTransferUnderLoad_conservesMoney() throws Exception {
+    LoadConfig config = LoadConfig.builder()
+      .accountPrefix("ACC-LOAD-")
+      .accountCount(20)
+      .skew(1.2)
+      .threads(8)
+      .durationMillis(2000)
+      .build();
+
+    LoadReport report = new LoadGenerator(new ServiceTransferTarget(this.accountsService), config).run();
+
+    assertThat(report.getCommitted()).isGreaterThan(0);
+    assertThat(report.getErrors()).isEqualTo(0);
+    assertThat(report.getNegativeAccounts()).isEmpty();
+    assertThat(report.getActualTotal()).isEqualByComparingTo(report.getExpectedTotal());
+  }
+
 }
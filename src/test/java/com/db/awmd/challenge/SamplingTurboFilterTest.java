@@ -0,0 +1,92 @@
+package com.db.awmd.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import com.db.awmd.challenge.logging.SamplingTurboFilter;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SamplingTurboFilterTest {
+
+  private LoggerContext loggerContext;
+  private Logger sampledLogger;
+  private Logger otherLogger;
+
+  @Before
+  public void prepareLoggers() {
+    loggerContext = new LoggerContext();
+    sampledLogger = loggerContext.getLogger("com.example.notification.Sender");
+    sampledLogger.setLevel(Level.INFO);
+    otherLogger = loggerContext.getLogger("com.example.other.Service");
+    otherLogger.setLevel(Level.INFO);
+  }
+
+  @Test
+  public void start_parsesCategories() {
+    SamplingTurboFilter filter = filter("com.example.notification=1", " com.example.audit = 10 ");
+
+    assertThat(filter.isStarted()).isTrue();
+    assertThat(decide(filter, sampledLogger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+  }
+
+  @Test
+  public void start_failsOnInvalidCategory() {
+    assertThat(filter("com.example.notification").isStarted()).isFalse();
+    assertThat(filter("=10").isStarted()).isFalse();
+    assertThat(filter("com.example.notification=abc").isStarted()).isFalse();
+    assertThat(filter("com.example.notification=0").isStarted()).isFalse();
+    assertThat(filter("com.example.notification=-5").isStarted()).isFalse();
+  }
+
+  @Test
+  public void decide_keepsAboutOneInN() {
+    SamplingTurboFilter filter = filter("com.example.notification=10");
+
+    int kept = 0;
+    for (int i = 0; i < 100000; i++) {
+      if (decide(filter, sampledLogger, Level.INFO) == FilterReply.NEUTRAL) {
+        kept++;
+      }
+    }
+    // Expected 10000, standard deviation about 95
+    assertThat(kept).isBetween(9000, 11000);
+  }
+
+  @Test
+  public void decide_neverSamplesWarnAndError() {
+    SamplingTurboFilter filter = filter("com.example.notification=1000000");
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(decide(filter, sampledLogger, Level.WARN)).isEqualTo(FilterReply.NEUTRAL);
+      assertThat(decide(filter, sampledLogger, Level.ERROR)).isEqualTo(FilterReply.NEUTRAL);
+    }
+  }
+
+  @Test
+  public void decide_leavesDisabledLevelsAndOtherLoggersAlone() {
+    SamplingTurboFilter filter = filter("com.example.notification=1000000");
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(decide(filter, sampledLogger, Level.DEBUG)).isEqualTo(FilterReply.NEUTRAL);
+      assertThat(decide(filter, otherLogger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+    }
+  }
+
+  private SamplingTurboFilter filter(String... categories) {
+    SamplingTurboFilter filter = new SamplingTurboFilter();
+    filter.setContext(loggerContext);
+    for (String category : categories) {
+      filter.addCategory(category);
+    }
+    filter.start();
+    return filter;
+  }
+
+  private static FilterReply decide(SamplingTurboFilter filter, Logger logger, Level level) {
+    return filter.decide(null, logger, level, "message", null, null);
+  }
+}
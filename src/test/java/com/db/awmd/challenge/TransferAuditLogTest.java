@@ -0,0 +1,77 @@
+package com.db.awmd.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.db.awmd.challenge.dto.BalanceTransfer;
+import com.db.awmd.challenge.logging.TransferAuditLog;
+import java.math.BigDecimal;
+import java.util.Currency;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+public class TransferAuditLogTest {
+
+  private final TransferAuditLog transferAuditLog = new TransferAuditLog();
+
+  private Logger auditLogger;
+  private ListAppender<ILoggingEvent> appender;
+
+  @Before
+  public void attachAppender() {
+    auditLogger = (Logger) LoggerFactory.getLogger(TransferAuditLog.LOGGER_NAME);
+    appender = new ListAppender<>();
+    appender.start();
+    auditLogger.addAppender(appender);
+  }
+
+  @After
+  public void detachAppender() {
+    auditLogger.detachAppender(appender);
+  }
+
+  @Test
+  public void committed() {
+    transferAuditLog.committed(new BalanceTransfer("ACC-1", "ACC-2", new BigDecimal("100"), Currency.getInstance("EUR")),
+      new BigDecimal("100.00"), new BigDecimal("108.50"));
+
+    assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly(
+      "status=COMMITTED from=\"ACC-1\" to=\"ACC-2\" amount=100 currency=EUR debit=100.00 credit=108.50");
+  }
+
+  @Test
+  public void rejected() {
+    transferAuditLog.rejected(new BalanceTransfer("ACC-1", "ACC-2", new BigDecimal("300")),
+      "Exception in balance transfer. Insufficient funds.");
+
+    assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly(
+      "status=REJECTED from=\"ACC-1\" to=\"ACC-2\" amount=300 currency=null reason=\"Exception in balance transfer. Insufficient funds.\"");
+  }
+
+  @Test
+  public void failed() {
+    transferAuditLog.failed(new BalanceTransfer("ACC-1", "ACC-2", null), "java.lang.NullPointerException");
+
+    assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly(
+      "status=FAILED from=\"ACC-1\" to=\"ACC-2\" amount=null currency=null error=\"java.lang.NullPointerException\"");
+  }
+
+  @Test
+  public void hostileAccountIdCanNotForgeOrSplitRecords() {
+    String hostileId = "ACC-1 status=COMMITTED\nstatus=COMMITTED from=\"X\\\r\u0000";
+    transferAuditLog.rejected(new BalanceTransfer(hostileId, "ACC-2", new BigDecimal("300")),
+      "Exception in balance transfer. Account [" + hostileId + "] does not exist.");
+
+    assertThat(appender.list).hasSize(1);
+    String line = appender.list.get(0).getFormattedMessage();
+    assertThat(line).doesNotContain("\n").doesNotContain("\r").doesNotContain("\u0000");
+    assertThat(line).isEqualTo("status=REJECTED"
+      + " from=\"ACC-1 status=COMMITTED\\nstatus=COMMITTED from=\\\"X\\\\\\r\\u0000\""
+      + " to=\"ACC-2\" amount=300 currency=null"
+      + " reason=\"Exception in balance transfer. Account [ACC-1 status=COMMITTED\\nstatus=COMMITTED from=\\\"X\\\\\\r\\u0000] does not exist.\"");
+  }
+}
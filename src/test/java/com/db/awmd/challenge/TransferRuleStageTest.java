@@ -0,0 +1,242 @@
+package com.db.awmd.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import com.db.awmd.challenge.domain.Account;
+import com.db.awmd.challenge.domain.AccountActivity;
+import com.db.awmd.challenge.domain.FxRateTable;
+import com.db.awmd.challenge.dto.RuleMetricsSnapshot;
+import com.db.awmd.challenge.exception.BalanceTransferException;
+import com.db.awmd.challenge.rules.RuleMetrics;
+import com.db.awmd.challenge.rules.TransferRule;
+import com.db.awmd.challenge.rules.TransferRuleStage;
+import com.db.awmd.challenge.rules.VelocityAmountRule;
+import com.db.awmd.challenge.rules.VelocityCountRule;
+import com.db.awmd.challenge.service.FxRateService;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TransferRuleStageTest {
+
+  private static final long WINDOW = TimeUnit.SECONDS.toNanos(60);
+
+  private TransferRuleStage transferRuleStage;
+  private Account fromAccount;
+  private Account toAccount;
+
+  @Before
+  public void prepareStage() {
+    FxRateService fxRateService = new FxRateService();
+    fxRateService.updateRateTable(FxRateTable.fromBaseRates(Currency.getInstance("EUR"),
+      Collections.singletonMap(Currency.getInstance("JPY"), new BigDecimal("160"))));
+    transferRuleStage = new TransferRuleStage(Arrays.asList(
+      new VelocityCountRule(60000, 3, 8),
+      new VelocityAmountRule(60000, new BigDecimal(500), "EUR", fxRateService)), 8);
+    fromAccount = new Account("ACC-RULE-1", new BigDecimal(10000));
+    toAccount = new Account("ACC-RULE-2", new BigDecimal(10000));
+  }
+
+  @Test
+  public void velocityCount_rejectsAboveLimitWithinWindow() {
+    transferRuleStage.evaluate(fromAccount, toAccount, BigDecimal.TEN, 0);
+    transferRuleStage.evaluate(fromAccount, toAccount, BigDecimal.TEN, 1);
+    transferRuleStage.evaluate(fromAccount, toAccount, BigDecimal.TEN, 2);
+
+    try {
+      transferRuleStage.evaluate(fromAccount, toAccount, BigDecimal.TEN, 3);
+      fail("Should have failed because of too many transfers in the window");
+    } catch (BalanceTransferException ex) {
+      assertThat(ex.getMessage()).isEqualTo("Exception in balance transfer. Account [ACC-RULE-1] rejected by rule "
+        + "[velocity-count]. More than 3 transfers in 60000 ms.");
+    }
+
+    // The first transfer left the window, the rejected one was not recorded.
+    transferRuleStage.evaluate(fromAccount, toAccount, BigDecimal.TEN, WINDOW + 1);
+  }
+
+  @Test
+  public void velocityAmount_rejectsAboveLimitWithinWindow() {
+    transferRuleStage.evaluate(fromAccount, toAccount, new BigDecimal("300.50"), 0);
+
+    try {
+      transferRuleStage.evaluate(fromAccount, toAccount, new BigDecimal("199.51"), 1);
+      fail("Should have failed because of too much transferred in the window");
+    } catch (BalanceTransferException ex) {
+      assertThat(ex.getMessage()).isEqualTo("Exception in balance transfer. Account [ACC-RULE-1] rejected by rule "
+        + "[velocity-amount]. More than 500 EUR transferred in 60000 ms.");
+    }
+
+    transferRuleStage.evaluate(fromAccount, toAccount, new BigDecimal("199.50"), 2);
+    transferRuleStage.evaluate(fromAccount, toAccount, new BigDecimal("400"), WINDOW + 3);
+  }
+
+  @Test
+  public void velocityAmount_convertsLimitToAccountCurrency() {
+    Account yenAccount = new Account("ACC-RULE-3", new BigDecimal(1000000), Currency.getInstance("JPY"));
+
+    // 500 EUR is 80000 JPY
+    transferRuleStage.evaluate(yenAccount, toAccount, new BigDecimal(80000), 0);
+    try {
+      transferRuleStage.evaluate(yenAccount, toAccount, BigDecimal.ONE, 1);
+      fail("Should have failed because 80001 JPY is above 500 EUR");
+    } catch (BalanceTransferException ex) {
+      assertThat(ex.getMessage()).contains("[velocity-amount]");
+    }
+  }
+
+  @Test
+  public void velocityAmount_rejectsWhenLimitCanNotBeConverted() {
+    // The feed has no SEK rate, a SEK to SEK transfer needs none but its limit can not be converted.
+    Account kronaAccount = new Account("ACC-RULE-4", new BigDecimal(10000), Currency.getInstance("SEK"));
+    Account otherKronaAccount = new Account("ACC-RULE-5", new BigDecimal(10000), Currency.getInstance("SEK"));
+
+    try {
+      transferRuleStage.evaluate(kronaAccount, otherKronaAccount, BigDecimal.TEN, 0);
+      fail("Should have failed because the limit can not be converted to SEK");
+    } catch (BalanceTransferException ex) {
+      assertThat(ex.getMessage()).isEqualTo("Exception in balance transfer. Account [ACC-RULE-4] rejected by rule "
+        + "[velocity-amount]. Limit of 500 EUR can not be converted to the account currency.");
+    }
+    assertThat(kronaAccount.getActivity().countSince(0)).isEqualTo(0);
+    RuleMetricsSnapshot amountMetrics = transferRuleStage.getMetrics().get(1);
+    assertThat(amountMetrics.getEvaluations()).isEqualTo(1);
+    assertThat(amountMetrics.getRejections()).isEqualTo(1);
+  }
+
+  @Test
+  public void evaluate_recordsThrowingRuleAsRejection() {
+    TransferRule throwingRule = new TransferRule() {
+      @Override
+      public String getName() {
+        return "throwing";
+      }
+
+      @Override
+      public String check(Account fromAccount, Account toAccount, long amount, long now) {
+        throw new IllegalStateException("broken rule");
+      }
+    };
+    TransferRuleStage stage = new TransferRuleStage(Collections.singletonList(throwingRule), 8);
+
+    try {
+      stage.evaluate(fromAccount, toAccount, BigDecimal.TEN, 0);
+      fail("Should have failed because the rule throws");
+    } catch (IllegalStateException ex) {
+      assertThat(ex.getMessage()).isEqualTo("broken rule");
+    }
+    assertThat(fromAccount.getActivity().countSince(0)).isEqualTo(0);
+    RuleMetricsSnapshot metrics = stage.getMetrics().get(0);
+    assertThat(metrics.getEvaluations()).isEqualTo(1);
+    assertThat(metrics.getRejections()).isEqualTo(1);
+  }
+
+  @Test
+  public void evaluate_rejectsAmountsOutOfRange() {
+    for (String amount : new String[] {"1E+17", "0.001", "-1"}) {
+      try {
+        transferRuleStage.evaluate(fromAccount, toAccount, new BigDecimal(amount), 0);
+        fail("Should have failed for amount " + amount);
+      } catch (BalanceTransferException ex) {
+        assertThat(ex.getMessage()).isEqualTo("Exception in balance transfer. Amount [" + amount
+          + "] can not be checked by transfer rules.");
+      }
+    }
+    // Nothing was recorded
+    assertThat(fromAccount.getActivity().countSince(0)).isEqualTo(0);
+  }
+
+  @Test
+  public void metrics_countEvaluationsAndRejectionsPerRule() {
+    for (int i = 0; i < 4; i++) {
+      try {
+        transferRuleStage.evaluate(fromAccount, toAccount, BigDecimal.ONE, i);
+      } catch (BalanceTransferException ex) {
+        // fourth transfer is rejected by velocity-count
+      }
+    }
+
+    List<RuleMetricsSnapshot> metrics = transferRuleStage.getMetrics();
+    assertThat(metrics).extracting(RuleMetricsSnapshot::getRule).containsExactly("velocity-count", "velocity-amount");
+    assertThat(metrics.get(0).getEvaluations()).isEqualTo(4);
+    assertThat(metrics.get(0).getRejections()).isEqualTo(1);
+    assertThat(metrics.get(1).getEvaluations()).isEqualTo(3);
+    assertThat(metrics.get(1).getRejections()).isEqualTo(0);
+  }
+
+  @Test
+  public void ruleMetrics_reportPercentilesAsBucketUpperBounds() {
+    RuleMetrics ruleMetrics = new RuleMetrics("test");
+    for (int i = 0; i < 990; i++) {
+      ruleMetrics.record(100, false);
+    }
+    for (int i = 0; i < 10; i++) {
+      ruleMetrics.record(1000000, true);
+    }
+
+    RuleMetricsSnapshot snapshot = ruleMetrics.snapshot();
+    assertThat(snapshot.getEvaluations()).isEqualTo(1000);
+    assertThat(snapshot.getRejections()).isEqualTo(10);
+    assertThat(snapshot.getMeanNanos()).isEqualTo((990 * 100 + 10 * 1000000) / 1000);
+    // 100 ns is in bucket [64, 128), 1 ms in [524288, 1048576)
+    assertThat(snapshot.getP99Nanos()).isEqualTo(127);
+    assertThat(snapshot.getP999Nanos()).isEqualTo(1048575);
+    assertThat(snapshot.getMaxNanos()).isEqualTo(1000000);
+  }
+
+  @Test
+  public void accountActivity_wrapsAroundAndKeepsLatestEntries() {
+    AccountActivity activity = new AccountActivity(4);
+    for (int i = 1; i <= 10; i++) {
+      activity.record(i, i * 100);
+    }
+
+    // Only debits 7 to 10 are left
+    assertThat(activity.countSince(0)).isEqualTo(4);
+    assertThat(activity.sumSince(0)).isEqualTo(700 + 800 + 900 + 1000);
+    assertThat(activity.countSince(9)).isEqualTo(2);
+    assertThat(activity.sumSince(9)).isEqualTo(900 + 1000);
+    assertThat(activity.countSince(11)).isEqualTo(0);
+    assertThat(activity.sumSince(11)).isEqualTo(0);
+  }
+
+  @Test
+  public void accountActivity_saturatesSum() {
+    AccountActivity activity = new AccountActivity(4);
+    activity.record(0, Long.MAX_VALUE - 5);
+    activity.record(1, 10);
+
+    assertThat(activity.sumSince(0)).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void velocityAmount_rejectsWhenHistoryDoesNotCoverWindow() {
+    TransferRuleStage amountOnly = new TransferRuleStage(Collections.<TransferRule>singletonList(
+      new VelocityAmountRule(60000, new BigDecimal(500), "EUR", new FxRateService())), 8);
+
+    // Eight debits of 50 fill the buffer of 8, older debits in the window would no longer be summed
+    for (int i = 0; i < 8; i++) {
+      amountOnly.evaluate(fromAccount, toAccount, new BigDecimal(50), i);
+    }
+    assertThat(fromAccount.getActivity().coversSince(0)).isFalse();
+
+    try {
+      amountOnly.evaluate(fromAccount, toAccount, new BigDecimal(50), 8);
+      fail("Should have failed because the buffer can not cover the window");
+    } catch (BalanceTransferException ex) {
+      assertThat(ex.getMessage()).isEqualTo("Exception in balance transfer. Account [ACC-RULE-1] rejected by rule "
+        + "[velocity-amount]. Too many transfers in 60000 ms to check the amount transferred.");
+    }
+
+    // Once the oldest debit left the window the sum is complete again
+    assertThat(fromAccount.getActivity().coversSince(1)).isTrue();
+    amountOnly.evaluate(fromAccount, toAccount, new BigDecimal(50), WINDOW + 1);
+  }
+
+}
@@ -0,0 +1,101 @@
+package com.db.awmd.challenge.load;
+
+import com.db.awmd.challenge.exception.BalanceTransferException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Drives the REST API of a running instance, e.g. http://localhost:8080/v1/accounts.
+ */
+public class HttpTransferTarget implements TransferTarget {
+
+  /**
+   * The controller answers a failed transfer with the message of the ExecutionException, which starts with the name
+   * of its cause.
+   */
+  private static final String REJECTION_PREFIX = BalanceTransferException.class.getName() + ":";
+
+  private final String baseUrl;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  public HttpTransferTarget(String baseUrl) {
+    this.baseUrl = baseUrl;
+  }
+
+  @Override
+  public void createAccount(String accountId, BigDecimal balance) throws IOException {
+    Response response = post(baseUrl, "{\"accountId\":\"" + accountId + "\",\"balance\":" + balance.toPlainString() + "}");
+    if (response.status != HttpURLConnection.HTTP_CREATED) {
+      throw new IOException("Creating account " + accountId + " returned HTTP " + response.status + ": " + response.body);
+    }
+  }
+
+  /**
+   * Only a 400 carrying a BalanceTransferException counts as rejected. Other 400s (interrupted transfer, malformed
+   * request) and any other status are errors.
+   */
+  @Override
+  public boolean transfer(String fromAccount, String toAccount, BigDecimal amount) throws IOException {
+    Response response = post(baseUrl + "/transfer", "{\"fromAccount\":\"" + fromAccount + "\",\"toAccount\":\"" + toAccount
+      + "\",\"transferAmount\":" + amount.toPlainString() + "}");
+    if (response.status == HttpURLConnection.HTTP_CREATED) {
+      return true;
+    }
+    if (response.status == HttpURLConnection.HTTP_BAD_REQUEST && response.body.startsWith(REJECTION_PREFIX)) {
+      return false;
+    }
+    throw new IOException("Transfer returned HTTP " + response.status + ": " + response.body);
+  }
+
+  @Override
+  public BigDecimal getBalance(String accountId) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/" + accountId).openConnection();
+    try (InputStream in = connection.getInputStream()) {
+      JsonNode account = objectMapper.readTree(in);
+      return account.get("balance").decimalValue();
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  private Response post(String url, String json) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+    connection.setRequestMethod("POST");
+    connection.setRequestProperty("Content-Type", "application/json");
+    connection.setDoOutput(true);
+    try (OutputStream out = connection.getOutputStream()) {
+      out.write(json.getBytes(StandardCharsets.UTF_8));
+    }
+    int status = connection.getResponseCode();
+    // Read the whole body so the keep-alive connection can be reused.
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+      if (in != null) {
+        byte[] buffer = new byte[512];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          body.write(buffer, 0, read);
+        }
+      }
+    }
+    return new Response(status, new String(body.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  private static class Response {
+    private final int status;
+    private final String body;
+
+    private Response(int status, String body) {
+      this.status = status;
+      this.body = body;
+    }
+  }
+}
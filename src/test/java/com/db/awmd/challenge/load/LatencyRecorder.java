@@ -0,0 +1,42 @@
+package com.db.awmd.challenge.load;
+
+import java.util.Arrays;
+
+/**
+ * Raw latency samples of one worker thread. Not thread safe, merge after the workers finished.
+ */
+class LatencyRecorder {
+
+  private long[] samples = new long[1 << 16];
+  private int size;
+
+  void record(long nanos) {
+    if (size == samples.length) {
+      samples = Arrays.copyOf(samples, size * 2);
+    }
+    samples[size++] = nanos;
+  }
+
+  static long[] mergeSorted(LatencyRecorder[] recorders) {
+    int total = 0;
+    for (LatencyRecorder recorder : recorders) {
+      total += recorder.size;
+    }
+    long[] merged = new long[total];
+    int offset = 0;
+    for (LatencyRecorder recorder : recorders) {
+      System.arraycopy(recorder.samples, 0, merged, offset, recorder.size);
+      offset += recorder.size;
+    }
+    Arrays.sort(merged);
+    return merged;
+  }
+
+  static long percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+  }
+}
@@ -0,0 +1,42 @@
+package com.db.awmd.challenge.load;
+
+import java.math.BigDecimal;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class LoadConfig {
+
+  /** Prefix of the generated account ids, keeps runs apart when the repository is shared. */
+  @Builder.Default
+  private final String accountPrefix = "LOAD-";
+
+  @Builder.Default
+  private final int accountCount = 100;
+
+  @Builder.Default
+  private final BigDecimal initialBalance = new BigDecimal(1000);
+
+  /** Largest amount of a single transfer, amounts are whole units from 1 up to this. */
+  @Builder.Default
+  private final int maxTransferAmount = 100;
+
+  /** Zipf exponent for picking accounts, 0 is uniform. */
+  @Builder.Default
+  private final double skew = 1.0;
+
+  @Builder.Default
+  private final int threads = 8;
+
+  /** Target transfers per second over all threads, 0 for as fast as possible. */
+  @Builder.Default
+  private final int transfersPerSecond = 0;
+
+  @Builder.Default
+  private final long durationMillis = 5000;
+
+  /** Same seed, same sequence of transfers per thread. */
+  @Builder.Default
+  private final long seed = 42;
+}
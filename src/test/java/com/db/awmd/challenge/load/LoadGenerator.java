@@ -0,0 +1,159 @@
+package com.db.awmd.challenge.load;
+
+import com.db.awmd.challenge.DevChallengeApplication;
+import com.db.awmd.challenge.service.AccountsService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Generates concurrent transfers between a set of accounts and checks afterwards that no money was created or
+ * lost and no balance went negative.
+ *
+ * Every worker has its own Random seeded from the configured seed, so a run replays the same transfers per thread;
+ * only their interleaving differs. When a rate is set latency is measured from the scheduled start of each transfer,
+ * so a stalled service shows up in the percentiles instead of just lowering the throughput.
+ *
+ * Standalone: gradle loadTest -Dload.target=http -Dload.url=http://localhost:8080/v1/accounts -Dload.threads=16
+ *
+ * Velocity rules reject most of the generated traffic, turn them off with transfer.velocity.max-count=0 and
+ * transfer.velocity.max-amount=0 (the loadTest task does this for the in-process target; start an HTTP target with them).
+ */
+@Slf4j
+public class LoadGenerator {
+
+  private final TransferTarget target;
+  private final LoadConfig config;
+
+  public LoadGenerator(TransferTarget target, LoadConfig config) {
+    this.target = target;
+    this.config = config;
+  }
+
+  public LoadReport run() throws Exception {
+    String[] accountIds = new String[config.getAccountCount()];
+    for (int i = 0; i < accountIds.length; i++) {
+      accountIds[i] = config.getAccountPrefix() + i;
+      target.createAccount(accountIds[i], config.getInitialBalance());
+    }
+
+    ZipfSampler sampler = new ZipfSampler(accountIds.length, config.getSkew());
+    long intervalNanos = config.getTransfersPerSecond() > 0
+      ? TimeUnit.SECONDS.toNanos(config.getThreads()) / config.getTransfersPerSecond() : 0;
+    AtomicLong committed = new AtomicLong();
+    AtomicLong rejected = new AtomicLong();
+    AtomicLong errors = new AtomicLong();
+    LatencyRecorder[] recorders = new LatencyRecorder[config.getThreads()];
+    Thread[] workers = new Thread[config.getThreads()];
+
+    long start = System.nanoTime();
+    long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.getDurationMillis());
+    for (int w = 0; w < workers.length; w++) {
+      LatencyRecorder recorder = new LatencyRecorder();
+      Random random = new Random(config.getSeed() + w);
+      recorders[w] = recorder;
+      workers[w] = new Thread(() -> {
+        long scheduled = System.nanoTime();
+        while (true) {
+          if (intervalNanos > 0) {
+            LockSupport.parkNanos(scheduled - System.nanoTime());
+          } else {
+            scheduled = System.nanoTime();
+          }
+          if (scheduled >= deadline) {
+            break;
+          }
+          int from = sampler.next(random);
+          int to = sampler.next(random);
+          if (to == from) {
+            to = (to + 1) % accountIds.length;
+          }
+          BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(config.getMaxTransferAmount()));
+          try {
+            if (target.transfer(accountIds[from], accountIds[to], amount)) {
+              committed.incrementAndGet();
+            } else {
+              rejected.incrementAndGet();
+            }
+          } catch (Exception e) {
+            errors.incrementAndGet();
+            log.warn("Transfer {} -> {} failed: {}", accountIds[from], accountIds[to], e.toString());
+          }
+          recorder.record(System.nanoTime() - scheduled);
+          scheduled += intervalNanos;
+        }
+      }, "load-" + w);
+      workers[w].start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long elapsed = System.nanoTime() - start;
+
+    BigDecimal actualTotal = BigDecimal.ZERO;
+    List<String> negativeAccounts = new ArrayList<>();
+    for (String accountId : accountIds) {
+      BigDecimal balance = target.getBalance(accountId);
+      actualTotal = actualTotal.add(balance);
+      if (balance.signum() < 0) {
+        negativeAccounts.add(accountId + "=" + balance);
+      }
+    }
+
+    long[] latencies = LatencyRecorder.mergeSorted(recorders);
+    return LoadReport.builder()
+      .committed(committed.get())
+      .rejected(rejected.get())
+      .errors(errors.get())
+      .elapsedNanos(elapsed)
+      .p50(LatencyRecorder.percentile(latencies, 50))
+      .p90(LatencyRecorder.percentile(latencies, 90))
+      .p99(LatencyRecorder.percentile(latencies, 99))
+      .p999(LatencyRecorder.percentile(latencies, 99.9))
+      .max(latencies.length == 0 ? 0 : latencies[latencies.length - 1])
+      .expectedTotal(config.getInitialBalance().multiply(BigDecimal.valueOf(accountIds.length)))
+      .actualTotal(actualTotal)
+      .negativeAccounts(negativeAccounts)
+      .build();
+  }
+
+  /**
+   * Options as system properties: load.target (service or http), load.url, load.accounts, load.skew, load.amount,
+   * load.threads, load.rate (transfers per second, 0 unlimited), load.durationMs, load.seed.
+   * Target 'service' starts the application in-process without the web server.
+   */
+  public static void main(String[] args) throws Exception {
+    LoadConfig config = LoadConfig.builder()
+      .accountPrefix("LOAD-" + System.currentTimeMillis() + "-")
+      .accountCount(Integer.getInteger("load.accounts", 100))
+      .maxTransferAmount(Integer.getInteger("load.amount", 100))
+      .skew(Double.parseDouble(System.getProperty("load.skew", "1.0")))
+      .threads(Integer.getInteger("load.threads", 8))
+      .transfersPerSecond(Integer.getInteger("load.rate", 0))
+      .durationMillis(Long.getLong("load.durationMs", 10000))
+      .seed(Long.getLong("load.seed", 42))
+      .build();
+
+    LoadReport report;
+    if ("http".equals(System.getProperty("load.target", "service"))) {
+      String url = System.getProperty("load.url", "http://localhost:8080/v1/accounts");
+      report = new LoadGenerator(new HttpTransferTarget(url), config).run();
+    } else {
+      try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DevChallengeApplication.class)
+        .web(WebApplicationType.NONE).run(args)) {
+        report = new LoadGenerator(new ServiceTransferTarget(context.getBean(AccountsService.class)), config).run();
+      }
+    }
+
+    System.out.println(report);
+    System.exit(report.isConsistent() && report.getErrors() == 0 ? 0 : 1);
+  }
+}
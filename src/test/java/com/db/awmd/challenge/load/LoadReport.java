@@ -0,0 +1,60 @@
+package com.db.awmd.challenge.load;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class LoadReport {
+
+  private final long committed;
+  private final long rejected;
+  private final long errors;
+  private final long elapsedNanos;
+
+  /** Latencies in nanoseconds. */
+  private final long p50;
+  private final long p90;
+  private final long p99;
+  private final long p999;
+  private final long max;
+
+  private final BigDecimal expectedTotal;
+  private final BigDecimal actualTotal;
+  private final List<String> negativeAccounts;
+
+  public long getAttempted() {
+    return committed + rejected + errors;
+  }
+
+  public double getThroughput() {
+    return getAttempted() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+  }
+
+  public boolean isMoneyConserved() {
+    return expectedTotal.compareTo(actualTotal) == 0;
+  }
+
+  public boolean isConsistent() {
+    return isMoneyConserved() && negativeAccounts.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("transfers: %d (committed %d, rejected %d, errors %d) in %d ms, %.1f/s%n"
+        + "latency us: p50 %d, p90 %d, p99 %d, p99.9 %d, max %d%n"
+        + "total balance: expected %s, actual %s%s%n"
+        + "negative balances: %s",
+      getAttempted(), committed, rejected, errors, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getThroughput(),
+      micros(p50), micros(p90), micros(p99), micros(p999), micros(max),
+      expectedTotal, actualTotal, isMoneyConserved() ? "" : " - MONEY NOT CONSERVED",
+      negativeAccounts.isEmpty() ? "none" : negativeAccounts);
+  }
+
+  private static long micros(long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+}
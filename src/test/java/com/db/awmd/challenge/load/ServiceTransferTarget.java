@@ -0,0 +1,42 @@
+package com.db.awmd.challenge.load;
+
+import com.db.awmd.challenge.domain.Account;
+import com.db.awmd.challenge.dto.BalanceTransfer;
+import com.db.awmd.challenge.exception.BalanceTransferException;
+import com.db.awmd.challenge.service.AccountsService;
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutionException;
+
+public class ServiceTransferTarget implements TransferTarget {
+
+  private final AccountsService accountsService;
+
+  public ServiceTransferTarget(AccountsService accountsService) {
+    this.accountsService = accountsService;
+  }
+
+  @Override
+  public void createAccount(String accountId, BigDecimal balance) {
+    accountsService.createAccount(new Account(accountId, balance));
+  }
+
+  @Override
+  public boolean transfer(String fromAccount, String toAccount, BigDecimal amount) throws Exception {
+    try {
+      accountsService.transferBalance(new BalanceTransfer(fromAccount, toAccount, amount)).get();
+      return true;
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof BalanceTransferException) {
+        return false;
+      }
+      throw ex;
+    } catch (BalanceTransferException ex) {
+      return false;
+    }
+  }
+
+  @Override
+  public BigDecimal getBalance(String accountId) {
+    return accountsService.getAccount(accountId).getBalance();
+  }
+}
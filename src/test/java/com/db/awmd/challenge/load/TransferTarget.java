@@ -0,0 +1,19 @@
+package com.db.awmd.challenge.load;
+
+import java.math.BigDecimal;
+
+/**
+ * System under load: either AccountsService in-process or the HTTP endpoint of a running instance.
+ */
+public interface TransferTarget {
+
+  void createAccount(String accountId, BigDecimal balance) throws Exception;
+
+  /**
+   * @return true when the transfer was committed, false when it was rejected by a business rule
+   * (e.g. insufficient funds). Anything else is thrown.
+   */
+  boolean transfer(String fromAccount, String toAccount, BigDecimal amount) throws Exception;
+
+  BigDecimal getBalance(String accountId) throws Exception;
+}
@@ -0,0 +1,31 @@
+package com.db.awmd.challenge.load;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Picks indexes 0..n-1 with probability proportional to 1 / (index + 1)^skew.
+ * Skew 0 is uniform; around 1 a handful of hot accounts take most of the traffic.
+ */
+public class ZipfSampler {
+
+  private final double[] cumulative;
+
+  public ZipfSampler(int n, double skew) {
+    cumulative = new double[n];
+    double sum = 0;
+    for (int i = 0; i < n; i++) {
+      sum += 1.0 / Math.pow(i + 1, skew);
+      cumulative[i] = sum;
+    }
+    for (int i = 0; i < n; i++) {
+      cumulative[i] /= sum;
+    }
+  }
+
+  public int next(Random random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    int position = index >= 0 ? index : -index - 1;
+    return Math.min(position, cumulative.length - 1);
+  }
+}
@@ -0,0 +1,94 @@
+package com.db.awmd.challenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import com.db.awmd.challenge.domain.FxRateTable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Currency;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+public class FxRateLoaderTest {
+
+  private static final Currency EUR = Currency.getInstance("EUR");
+  private static final Currency USD = Currency.getInstance("USD");
+  private static final Currency GBP = Currency.getInstance("GBP");
+
+  private FxRateService fxRateService;
+  private FxRateTable previousRates;
+
+  @Before
+  public void prepareRates() {
+    fxRateService = new FxRateService();
+    previousRates = FxRateTable.fromBaseRates(EUR, Collections.singletonMap(USD, new BigDecimal("1.10")));
+    fxRateService.updateRateTable(previousRates);
+  }
+
+  @Test
+  public void load_computesCrossRates() throws Exception {
+    FxRateTable rates = loader("base=EUR\nUSD=1.25\nGBP=0.80\n").load();
+
+    assertThat(rates.size()).isEqualTo(3);
+    assertThat(rates.getRate(EUR, USD)).isEqualByComparingTo("1.25");
+    assertThat(rates.getRate(USD, EUR)).isEqualByComparingTo("0.8");
+    assertThat(rates.getRate(GBP, USD)).isEqualByComparingTo("1.5625");
+  }
+
+  @Test
+  public void reload_publishesValidFeed() {
+    loader("base=EUR\nUSD=1.25\n").reload();
+
+    assertThat(fxRateService.getRateTable()).isNotSameAs(previousRates);
+    assertThat(fxRateService.getRateTable().getRate(EUR, USD)).isEqualByComparingTo("1.25");
+  }
+
+  @Test
+  public void load_failsOnMissingBase() throws Exception {
+    assertLoadFails(loader("USD=1.25\n"), "Missing '" + FxRateLoader.BASE_KEY + "' currency");
+  }
+
+  @Test
+  public void load_failsOnNonPositiveRate() throws Exception {
+    assertLoadFails(loader("base=EUR\nUSD=0\n"), "Rate for USD must be positive");
+    assertLoadFails(loader("base=EUR\nUSD=-1.25\n"), "Rate for USD must be positive");
+  }
+
+  @Test
+  public void load_failsOnUnknownCurrency() throws Exception {
+    assertLoadFails(loader("base=EUR\nXYZ1=1.25\n"), null);
+    assertLoadFails(loader("base=EURO\nUSD=1.25\n"), null);
+  }
+
+  @Test
+  public void reload_keepsPreviousRatesOnBrokenFeed() {
+    loader("USD=1.25\n").reload();
+    loader("base=EUR\nUSD=0\n").reload();
+    loader("base=EUR\nXYZ1=1.25\n").reload();
+    loader("base=EUR\nUSD=abc\n").reload();
+    new FxRateLoader(fxRateService, new ClassPathResource("does-not-exist.properties")).reload();
+
+    assertThat(fxRateService.getRateTable()).isSameAs(previousRates);
+  }
+
+  private FxRateLoader loader(String feed) {
+    Resource resource = new ByteArrayResource(feed.getBytes(StandardCharsets.ISO_8859_1));
+    return new FxRateLoader(fxRateService, resource);
+  }
+
+  private static void assertLoadFails(FxRateLoader loader, String message) throws Exception {
+    try {
+      loader.load();
+      fail("Should have failed to load the feed");
+    } catch (IllegalArgumentException ex) {
+      if (message != null) {
+        assertThat(ex.getMessage()).isEqualTo(message);
+      }
+    }
+  }
+}